@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2025 Hargovind Technologies. All rights reserved.
+ * SPDX-License-Identifier: LicenseRef-Hargovind-1.0
+ *
+ * See the LICENSE file in the project root for license terms.
+ *
+ */
+import synapsex.core.Tensor;
+import synapsex.distributed.DistributedDataParallel;
+import synapsex.distributed.RingAllReduce;
+import synapsex.nn.*;
+import synapsex.nn.loss.MSELoss;
+import synapsex.optim.SGD;
+import java.net.InetSocketAddress;
+import java.util.*;
+
+/**
+ * Same toy regression as ExampleMain, trained data-parallel over N local JVMs.
+ *
+ *   java DistributedExampleMain [workers] [basePort]          -> launches workers on localhost
+ *   java DistributedExampleMain --worker rank host:port,...   -> runs one worker; start one per
+ *                                                               rank, on any machines, same list
+ */
+public class DistributedExampleMain {
+    public static void main(String[] args) throws Exception {
+        if (args.length == 3 && args[0].equals("--worker")) {
+            worker(Integer.parseInt(args[1]), args[2]);
+            return;
+        }
+        int workers = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        int basePort = args.length > 1 ? Integer.parseInt(args[1]) : 29500;
+
+        String java = System.getProperty("java.home") + "/bin/java";
+        String cp = System.getProperty("java.class.path");
+        StringBuilder peers = new StringBuilder();
+        for (InetSocketAddress a : RingAllReduce.localhost(workers, basePort)) {
+            if (peers.length() > 0) peers.append(',');
+            peers.append(a.getHostString()).append(':').append(a.getPort());
+        }
+        List<Process> procs = new ArrayList<>();
+        for (int r = 0; r < workers; r++) {
+            procs.add(new ProcessBuilder(java, "-cp", cp, "DistributedExampleMain",
+                    "--worker", String.valueOf(r), peers.toString())
+                    .inheritIO().start());
+        }
+        int failed = 0;
+        for (Process p : procs) if (p.waitFor() != 0) failed++;
+        if (failed > 0) throw new IllegalStateException(failed + " worker(s) failed");
+    }
+
+    static void worker(int rank, String peers) throws Exception {
+        int batch = 8;
+        int input = 4;
+        int hidden = 16;
+        int out = 2;
+        int batchesPerWorker = 100; // so the global batch count grows with world size
+
+        Sequential model = new Sequential(new Linear(input, hidden), new ReLU(), new Linear(hidden, out));
+        RingAllReduce ring = new RingAllReduce(rank, RingAllReduce.parsePeers(peers));
+        int world = ring.worldSize;
+        try (DistributedDataParallel ddp = new DistributedDataParallel(model, ring)) {
+            SGD opt = new SGD(ddp.parameters(), 0.05);
+
+            // every rank builds the same target mapping
+            Random rnd = new Random(42);
+            double[] A = new double[input * out];
+            double[] B = new double[out];
+            for (int i = 0; i < A.length; i++) A[i] = rnd.nextGaussian();
+            for (int i = 0; i < B.length; i++) B[i] = rnd.nextGaussian();
+
+            long start = System.nanoTime();
+            long steps = ddp.stepsPerRank((long) batchesPerWorker * world);
+            for (long step = 0; step < steps; step++) {
+                long g = ddp.batchIndex(step);
+                // batch g is reproducible on whichever rank owns it
+                Random data = new Random(1000 + g);
+                Tensor x = new Tensor(batch, input);
+                Tensor y = new Tensor(batch, out);
+                for (int b = 0; b < batch; b++) {
+                    for (int i = 0; i < input; i++) x.data[b*input + i] = data.nextGaussian();
+                    for (int j = 0; j < out; j++) {
+                        double s = 0.0;
+                        for (int i = 0; i < input; i++) s += x.data[b*input + i] * A[i*out + j];
+                        y.data[b*out + j] = s + B[j];
+                    }
+                }
+                ddp.zeroGrad();
+                Tensor loss = MSELoss.mse(ddp.forward(x), y);
+                ddp.backward(loss);
+                opt.step();
+                if (rank == 0 && step % 10 == 0) System.out.printf("Step %d loss=%.6f%n", step, loss.data[0]);
+            }
+            double secs = (System.nanoTime() - start) / 1e9;
+            if (rank == 0) System.out.printf("Training done: %d workers, %.0f samples/s%n", world, (double) steps * world * batch / secs);
+        }
+    }
+}
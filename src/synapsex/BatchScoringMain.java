@@ -0,0 +1,51 @@
+/**
+ * Copyright (c) 2025 Hargovind Technologies. All rights reserved.
+ * SPDX-License-Identifier: LicenseRef-Hargovind-1.0
+ *
+ * See the LICENSE file in the project root for license terms.
+ *
+ */
+package com.synapsex;
+
+import com.synapsex.service.AIService;
+import synapsex.inference.BatchScorer;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Nightly batch scoring without the HTTP server. Loads the same weights file the server is
+ * configured with (synapsex.model.weights), so scores match /api/predict.
+ *
+ *   java -cp app.jar com.synapsex.BatchScoringMain --weights model.sxw --input rows.bin --output scores.bin
+ *        [--format BINARY|CSV] [--resume]
+ */
+public class BatchScoringMain {
+    public static void main(String[] args) throws Exception {
+        String weights = null, input = null, output = null;
+        BatchScorer.Format format = BatchScorer.Format.BINARY;
+        boolean resume = false;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--weights": weights = value(args, ++i); break;
+                case "--input": input = value(args, ++i); break;
+                case "--output": output = value(args, ++i); break;
+                case "--format": format = BatchScorer.Format.valueOf(value(args, ++i)); break;
+                case "--resume": resume = true; break;
+                default: throw new IllegalArgumentException("unknown argument " + args[i]);
+            }
+        }
+        if (weights == null || input == null || output == null)
+            throw new IllegalArgumentException("usage: --weights FILE --input FILE --output FILE [--format BINARY|CSV] [--resume]");
+
+        AIService service = new AIService(weights);
+        Path in = Paths.get(input), out = Paths.get(output);
+        BatchScorer.Progress done = service.scoreFile(in, out, format, resume, p -> System.out.println("[batch] " + p));
+        System.out.println("Scoring done: " + done.rows + " rows -> " + out);
+    }
+
+    private static String value(String[] args, int i) {
+        if (i >= args.length) throw new IllegalArgumentException(args[i - 1] + " needs a value");
+        return args[i];
+    }
+}
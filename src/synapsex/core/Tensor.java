@@ -9,12 +9,15 @@ package synapsex.core;
 
 import java.util.*;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Minimal Tensor with:
  * - row-major flattened double[] storage
  * - arbitrary shape (1D/2D common cases)
  * - very small autograd graph (parents + gradFn)
+ * - noGrad() mode for inference: no graph is built and new tensors get no grad buffer
  *
  * Limitations: not optimized, backward supports scalar root only,
  * broadcasting is limited (not implemented fully).
@@ -26,17 +29,19 @@ public class Tensor {
     public final int size;
 
     // autograd
-    public double[] grad;                // same length as data
+    public double[] grad;                // same length as data; null if created under noGrad() until setRequiresGrad(true)
     public boolean requiresGrad = false;
     public final List<Tensor> parents = new ArrayList<>();
     public BiConsumer<Tensor,double[]> gradFn = null; // (self, upstreamGrad)
 
+    private static final ThreadLocal<Boolean> GRAD_ENABLED = ThreadLocal.withInitial(() -> Boolean.TRUE);
+
     // constructors
     public Tensor(int... shape) {
         this.shape = shape.clone();
         this.size = computeSize(shape);
         this.data = new double[this.size];
-        this.grad = new double[this.size];
+        this.grad = isGradEnabled() ? new double[this.size] : null;
     }
 
     public Tensor(double[] data, int... shape) {
@@ -44,7 +49,7 @@ public class Tensor {
         this.size = computeSize(shape);
         if (data.length != this.size) throw new IllegalArgumentException("data length mismatch");
         this.data = data.clone();
-        this.grad = new double[this.size];
+        this.grad = isGradEnabled() ? new double[this.size] : null;
     }
 
     private static int computeSize(int[] shape) {
@@ -70,13 +75,31 @@ public class Tensor {
     // enable grad
     public Tensor setRequiresGrad(boolean flag) {
         this.requiresGrad = flag;
+        if (flag && grad == null) grad = new double[size];
         return this;
     }
 
+    // ========== Grad mode (per thread) ==========
+    public static boolean isGradEnabled() { return GRAD_ENABLED.get(); }
+
+    /**
+     * Run body with autograd off on this thread: ops build no graph even if inputs
+     * require grad, and tensors created inside skip the grad buffer. For inference.
+     */
+    public static <T> T noGrad(Supplier<T> body) {
+        boolean prev = GRAD_ENABLED.get();
+        GRAD_ENABLED.set(Boolean.FALSE);
+        try {
+            return body.get();
+        } finally {
+            GRAD_ENABLED.set(prev);
+        }
+    }
+
     // utility
     public String shapeString() { return Arrays.toString(shape); }
 
-    public void zeroGrad() { Arrays.fill(this.grad, 0.0); }
+    public void zeroGrad() { if (grad != null) Arrays.fill(this.grad, 0.0); }
 
     // ========== Basic Ops (no broadcasting) ==========
     public static Tensor add(Tensor a, Tensor b) {
@@ -84,7 +107,7 @@ public class Tensor {
         Tensor out = new Tensor(a.shape);
         for (int i = 0; i < a.size; i++) out.data[i] = a.data[i] + b.data[i];
 
-        if (a.requiresGrad || b.requiresGrad) {
+        if (isGradEnabled() && (a.requiresGrad || b.requiresGrad)) {
             out.setRequiresGrad(true);
             out.parents.add(a);
             out.parents.add(b);
@@ -101,7 +124,7 @@ public class Tensor {
         Tensor out = new Tensor(a.shape);
         for (int i = 0; i < a.size; i++) out.data[i] = a.data[i] - b.data[i];
 
-        if (a.requiresGrad || b.requiresGrad) {
+        if (isGradEnabled() && (a.requiresGrad || b.requiresGrad)) {
             out.setRequiresGrad(true);
             out.parents.add(a);
             out.parents.add(b);
@@ -118,7 +141,7 @@ public class Tensor {
         Tensor out = new Tensor(a.shape);
         for (int i = 0; i < a.size; i++) out.data[i] = a.data[i] * b.data[i];
 
-        if (a.requiresGrad || b.requiresGrad) {
+        if (isGradEnabled() && (a.requiresGrad || b.requiresGrad)) {
             out.setRequiresGrad(true);
             out.parents.add(a);
             out.parents.add(b);
@@ -144,7 +167,7 @@ public class Tensor {
             }
         }
 
-        if (A.requiresGrad || B.requiresGrad) {
+        if (isGradEnabled() && (A.requiresGrad || B.requiresGrad)) {
             out.setRequiresGrad(true);
             out.parents.add(A);
             out.parents.add(B);
@@ -180,7 +203,7 @@ public class Tensor {
         Tensor out = new Tensor(a.shape);
         for (int i = 0; i < a.size; i++) out.data[i] = Math.max(0.0, a.data[i]);
 
-        if (a.requiresGrad) {
+        if (isGradEnabled() && a.requiresGrad) {
             out.setRequiresGrad(true);
             out.parents.add(a);
             out.gradFn = (self, up) -> {
@@ -197,7 +220,7 @@ public class Tensor {
         double s = 0.0;
         for (double v : data) s += v;
         Tensor out = fromScalar(s);
-        if (this.requiresGrad) {
+        if (isGradEnabled() && this.requiresGrad) {
             out.setRequiresGrad(true);
             out.parents.add(this);
             out.gradFn = (self, up) -> {
@@ -224,20 +247,41 @@ public class Tensor {
 
     // ========== Autograd backward (scalar root) ==========
     public void backward() {
+        backward(null);
+    }
+
+    /**
+     * backward() that also calls onLeafGradReady for each leaf (requiresGrad, no gradFn)
+     * as soon as every op consuming it has run, i.e. its grad is final.
+     * Lets callers (e.g. gradient all-reduce) start on early grads while backward continues.
+     */
+    public void backward(Consumer<Tensor> onLeafGradReady) {
         if (this.size != 1) throw new IllegalStateException("backward() expects a scalar (size==1) as root");
         // initialize grads
+        if (this.grad == null) this.grad = new double[this.size];
         Arrays.fill(this.grad, 0.0);
         this.grad[0] = 1.0;
         // topo sort
         List<Tensor> topo = new ArrayList<>();
         Set<Tensor> seen = new HashSet<>();
         buildTopo(this, topo, seen);
+        // pending consumers per tensor, only needed for the hook
+        Map<Tensor,Integer> pending = null;
+        if (onLeafGradReady != null) {
+            pending = new IdentityHashMap<>();
+            for (Tensor t : topo) for (Tensor p : t.parents) pending.merge(p, 1, Integer::sum);
+        }
         // reverse traversal: call gradFn on each
         for (int i = topo.size()-1; i >= 0; i--) {
             Tensor t = topo.get(i);
             if (t.gradFn != null) {
                 t.gradFn.accept(t, t.grad);
             }
+            if (pending != null) {
+                for (Tensor p : t.parents) {
+                    if (pending.merge(p, -1, Integer::sum) == 0 && p.requiresGrad && p.gradFn == null) onLeafGradReady.accept(p);
+                }
+            }
         }
     }
 
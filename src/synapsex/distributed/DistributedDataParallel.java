@@ -0,0 +1,199 @@
+/**
+ * Copyright (c) 2025 Hargovind Technologies. All rights reserved.
+ * SPDX-License-Identifier: LicenseRef-Hargovind-1.0
+ *
+ * See the LICENSE file in the project root for license terms.
+ *
+ */
+package synapsex.distributed;
+
+import synapsex.core.Tensor;
+import synapsex.nn.Module;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Data-parallel training across processes: every rank holds a full replica of the model,
+ * runs forward/backward on its own shard of batches, and gradients are averaged over the ring.
+ *
+ * Parameters are grouped into buckets of about bucketBytes, in reverse registration order
+ * (roughly the order backward finishes them). A bucket is all-reduced on a background thread
+ * as soon as all its grads are final, so communication overlaps the rest of backward.
+ *
+ * Every rank must call backward() the same number of times, or the ring stalls until it times out.
+ * stepsPerRank()/batchIndex() shard a global batch list so that this holds.
+ *
+ * Usage (on every rank):
+ *   for (long step = 0; step < ddp.stepsPerRank(totalBatches); step++) {
+ *     load global batch ddp.batchIndex(step) into x, y
+ *     ddp.zeroGrad();
+ *     Tensor loss = MSELoss.mse(ddp.forward(x), y);
+ *     ddp.backward(loss);   // launches bucket all-reduces during backward, waits for them
+ *     opt.step();           // plain SGD on model.parameters()
+ *   }
+ * @author Hargovind Singh
+ */
+public class DistributedDataParallel extends Module implements Closeable {
+    public static final int DEFAULT_BUCKET_BYTES = 1 << 20;
+
+    private final Module module;
+    private final RingAllReduce ring;
+    private final List<Bucket> buckets = new ArrayList<>();
+    private final IdentityHashMap<Tensor, Bucket> bucketOf = new IdentityHashMap<>();
+    private final ExecutorService comm;
+    private final List<Future<?>> inFlight = new ArrayList<>();
+    private int nextBucket;
+    private Throwable failure; // set once a backward fails; ranks are then out of step
+
+    private static class Bucket {
+        final List<Tensor> params = new ArrayList<>();
+        double[] flat;
+        int ready;
+    }
+
+    public DistributedDataParallel(Module module, RingAllReduce ring) throws IOException {
+        this(module, ring, DEFAULT_BUCKET_BYTES);
+    }
+
+    public DistributedDataParallel(Module module, RingAllReduce ring, int bucketBytes) throws IOException {
+        if (bucketBytes <= 0) throw new IllegalArgumentException("bucketBytes must be > 0");
+        this.module = module;
+        this.ring = ring;
+        List<Tensor> ps = module.parameters();
+
+        // replicas must start identical: take rank 0's initial weights
+        int total = 0;
+        for (Tensor p : ps) total += p.size;
+        double[] flat = new double[total];
+        int off = 0;
+        for (Tensor p : ps) { System.arraycopy(p.data, 0, flat, off, p.size); off += p.size; }
+        ring.broadcast(flat, 0);
+        off = 0;
+        for (Tensor p : ps) { System.arraycopy(flat, off, p.data, 0, p.size); off += p.size; }
+
+        Bucket cur = null;
+        int curBytes = 0;
+        for (int i = ps.size() - 1; i >= 0; i--) {
+            Tensor p = ps.get(i);
+            if (cur == null || curBytes + p.size * Double.BYTES > bucketBytes && !cur.params.isEmpty()) {
+                cur = new Bucket();
+                buckets.add(cur);
+                curBytes = 0;
+            }
+            cur.params.add(p);
+            bucketOf.put(p, cur);
+            curBytes += p.size * Double.BYTES;
+        }
+        for (Bucket b : buckets) {
+            int n = 0;
+            for (Tensor p : b.params) n += p.size;
+            b.flat = new double[n];
+        }
+
+        comm = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ddp-allreduce-" + ring.rank);
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @Override
+    public Tensor forward(Tensor x) {
+        return module.forward(x);
+    }
+
+    @Override
+    public List<Tensor> parameters() {
+        return module.parameters();
+    }
+
+    /**
+     * Steps each rank runs over totalBatches global batches (round-robin). The last incomplete
+     * round, totalBatches % worldSize batches, is dropped on every rank so all ranks issue the
+     * same number of all-reduces.
+     */
+    public long stepsPerRank(long totalBatches) {
+        if (totalBatches < 0) throw new IllegalArgumentException("totalBatches must be >= 0");
+        return totalBatches / ring.worldSize;
+    }
+
+    /** Global batch index this rank trains on at step (0 <= step < stepsPerRank). */
+    public long batchIndex(long step) {
+        return step * ring.worldSize + ring.rank;
+    }
+
+    /**
+     * loss.backward() with gradient averaging; on return every param.grad is the global mean.
+     * If it fails (in autograd or in communication) this rank may have issued a different
+     * number of collectives than the others, so pending all-reduces are cancelled and every
+     * later call fails too; close() and restart the job from a checkpoint.
+     */
+    public void backward(Tensor loss) {
+        if (failure != null) throw new IllegalStateException("an earlier backward failed; ranks are out of step", failure);
+        try {
+            loss.backward(this::onGradReady);
+            // params the loss didn't reach still need their (zero) grads reduced so ranks stay in step
+            for (Bucket b : buckets) b.ready = b.params.size();
+            launchReady();
+            for (Future<?> f : inFlight) f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed(e);
+            throw new IllegalStateException("interrupted waiting for gradient all-reduce", e);
+        } catch (ExecutionException e) {
+            failed(e.getCause());
+            throw new IllegalStateException("gradient all-reduce failed", e.getCause());
+        } catch (RuntimeException | Error e) {
+            failed(e);
+            throw e;
+        } finally {
+            inFlight.clear();
+            for (Bucket b : buckets) b.ready = 0;
+            nextBucket = 0;
+        }
+    }
+
+    private void failed(Throwable cause) {
+        failure = cause;
+        for (Future<?> f : inFlight) f.cancel(true);
+    }
+
+    private void onGradReady(Tensor p) {
+        Bucket b = bucketOf.get(p);
+        if (b == null) return;
+        b.ready++;
+        launchReady();
+    }
+
+    // buckets are launched strictly in index order so every rank issues the same collective sequence
+    private void launchReady() {
+        while (nextBucket < buckets.size() && buckets.get(nextBucket).ready >= buckets.get(nextBucket).params.size()) {
+            Bucket b = buckets.get(nextBucket++);
+            int off = 0;
+            for (Tensor p : b.params) { System.arraycopy(p.grad, 0, b.flat, off, p.size); off += p.size; }
+            inFlight.add(comm.submit(() -> {
+                try {
+                    ring.allReduce(b.flat);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                double scale = 1.0 / ring.worldSize;
+                int o = 0;
+                for (Tensor p : b.params) {
+                    for (int i = 0; i < p.size; i++) p.grad[i] = b.flat[o + i] * scale;
+                    o += p.size;
+                }
+            }));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        comm.shutdownNow();
+        ring.close();
+    }
+}
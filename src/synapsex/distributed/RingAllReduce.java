@@ -0,0 +1,312 @@
+/**
+ * Copyright (c) 2025 Hargovind Technologies. All rights reserved.
+ * SPDX-License-Identifier: LicenseRef-Hargovind-1.0
+ *
+ * See the LICENSE file in the project root for license terms.
+ *
+ */
+package synapsex.distributed;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketTimeoutException;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+/**
+ * Ring of worldSize processes connected by TCP. Every rank gets the same list of rank
+ * addresses (host:port, one per rank, possibly on different machines); rank r listens on
+ * its own address from that list (loopback for localhost(), otherwise the advertised interface),
+ * accepts a connection from rank r-1 and connects to rank r+1 (mod worldSize). Binding to all
+ * interfaces must be asked for explicitly, since the ring trusts whoever connects first.
+ *
+ * allReduce() is the bandwidth-optimal ring algorithm: reduce-scatter then all-gather
+ * over worldSize segments, so each rank sends/receives about 2 * (N-1)/N of the buffer.
+ * Sends run on a dedicated thread so every rank can send and receive at once
+ * without deadlocking on full socket buffers.
+ *
+ * Setup, reads (timeoutMs without any bytes) and segment sends (timeoutMs to complete) give
+ * up with a SocketTimeoutException, so a rank that never starts or hangs mid-collective fails
+ * the job instead of blocking the other ranks forever. The timeout must cover the slowest
+ * rank's compute between two collectives.
+ *
+ * Wire format is little-endian regardless of platform, so ranks may run on mixed hardware.
+ *
+ * Not thread safe: callers must issue collectives one at a time and in the same order on every rank.
+ * @author Hargovind Singh
+ */
+public class RingAllReduce implements Closeable {
+    public final int rank;
+    public final int worldSize;
+
+    private final SocketChannel next; // we send to rank+1
+    private final SocketChannel prev; // we receive from rank-1 (non-blocking, read via selector)
+    private final Selector readable;
+    private final long timeoutMs;
+    private final ExecutorService sender;
+    private ByteBuffer sendBuf = ByteBuffer.allocateDirect(0);
+    private ByteBuffer recvBuf = ByteBuffer.allocateDirect(0);
+
+    public static final long DEFAULT_TIMEOUT_MS = 120_000;
+
+    /** @param peers address of every rank, indexed by rank; the same list on all ranks */
+    public RingAllReduce(int rank, List<InetSocketAddress> peers) throws IOException {
+        this(rank, peers, DEFAULT_TIMEOUT_MS);
+    }
+
+    public RingAllReduce(int rank, List<InetSocketAddress> peers, long timeoutMs) throws IOException {
+        this(rank, peers, timeoutMs, false);
+    }
+
+    /** @param bindAllInterfaces listen on the wildcard address instead of peers.get(rank), e.g. behind NAT */
+    public RingAllReduce(int rank, List<InetSocketAddress> peers, long timeoutMs, boolean bindAllInterfaces) throws IOException {
+        int worldSize = peers.size();
+        if (worldSize == 0 || rank < 0 || rank >= worldSize)
+            throw new IllegalArgumentException("invalid rank " + rank + " for world size " + worldSize);
+        if (timeoutMs <= 0) throw new IllegalArgumentException("timeoutMs must be > 0");
+        this.rank = rank;
+        this.worldSize = worldSize;
+        this.timeoutMs = timeoutMs;
+        if (worldSize == 1) {
+            next = prev = null;
+            readable = null;
+            sender = null;
+            return;
+        }
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        SocketChannel out = null, in = null;
+        Selector sel = null;
+        try (ServerSocketChannel server = ServerSocketChannel.open(); Selector acceptable = Selector.open()) {
+            server.setOption(StandardSocketOptions.SO_REUSEADDR, true);
+            InetSocketAddress self = peers.get(rank);
+            server.bind(bindAllInterfaces ? new InetSocketAddress(self.getPort()) : self);
+            server.configureBlocking(false);
+            server.register(acceptable, SelectionKey.OP_ACCEPT);
+            out = connect(peers.get((rank + 1) % worldSize), deadline);
+            while ((in = server.accept()) == null) {
+                long left = deadline - System.currentTimeMillis();
+                if (left <= 0) throw new SocketTimeoutException("rank " + rank + ": no connection from rank "
+                        + Math.floorMod(rank - 1, worldSize) + " within " + timeoutMs + " ms");
+                acceptable.select(left);
+                acceptable.selectedKeys().clear();
+            }
+            in.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            in.configureBlocking(false);
+            sel = Selector.open();
+            in.register(sel, SelectionKey.OP_READ);
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(out);
+            closeQuietly(in);
+            closeQuietly(sel);
+            throw e;
+        }
+        next = out;
+        prev = in;
+        readable = sel;
+        sender = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ring-send-" + rank);
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            // handshake: tell next who we are, check prev is who we expect
+            ByteBuffer hello = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(0, rank);
+            writeFully(next, hello);
+            ByteBuffer got = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(got);
+            int expected = Math.floorMod(rank - 1, worldSize);
+            if (got.getInt(0) != expected)
+                throw new IOException("ring handshake: expected rank " + expected + " but got " + got.getInt(0));
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /** worldSize ranks on this machine, rank r on basePort + r. */
+    public static List<InetSocketAddress> localhost(int worldSize, int basePort) {
+        List<InetSocketAddress> peers = new ArrayList<>();
+        for (int r = 0; r < worldSize; r++) peers.add(new InetSocketAddress("127.0.0.1", basePort + r));
+        return peers;
+    }
+
+    /** Parses "host0:port0,host1:port1,..." (rank order). */
+    public static List<InetSocketAddress> parsePeers(String spec) {
+        List<InetSocketAddress> peers = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            String hp = part.trim();
+            int colon = hp.lastIndexOf(':');
+            if (colon <= 0) throw new IllegalArgumentException("expected host:port but got '" + hp + "'");
+            peers.add(new InetSocketAddress(hp.substring(0, colon), Integer.parseInt(hp.substring(colon + 1))));
+        }
+        return peers;
+    }
+
+    private static SocketChannel connect(InetSocketAddress addr, long deadline) throws IOException {
+        // peers start in any order: retry until the next rank is listening
+        while (true) {
+            SocketChannel ch = SocketChannel.open();
+            try {
+                long left = Math.max(1, deadline - System.currentTimeMillis());
+                ch.socket().connect(addr, (int) Math.min(Integer.MAX_VALUE, left));
+                ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                return ch;
+            } catch (IOException e) {
+                ch.close();
+                if (System.currentTimeMillis() >= deadline) throw new SocketTimeoutException("could not connect to " + addr + ": " + e);
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("interrupted while connecting to " + addr, ie);
+                }
+            }
+        }
+    }
+
+    /** In-place sum of data across all ranks. */
+    public void allReduce(double[] data) throws IOException {
+        int n = worldSize;
+        if (n == 1 || data.length == 0) return;
+        ensureCapacity(maxSegment(data.length));
+
+        // reduce-scatter: after n-1 steps rank r owns the full sum of segment (r+1) % n
+        for (int step = 0; step < n - 1; step++) {
+            int sendSeg = Math.floorMod(rank - step, n);
+            int recvSeg = Math.floorMod(rank - step - 1, n);
+            exchange(data, sendSeg, recvSeg, true);
+        }
+        // all-gather: pass the finished segments around the ring
+        for (int step = 0; step < n - 1; step++) {
+            int sendSeg = Math.floorMod(rank + 1 - step, n);
+            int recvSeg = Math.floorMod(rank - step, n);
+            exchange(data, sendSeg, recvSeg, false);
+        }
+    }
+
+    /** Copy root's data into every other rank's data, passed hop by hop along the ring. */
+    public void broadcast(double[] data, int root) throws IOException {
+        if (worldSize == 1 || data.length == 0) return;
+        ensureCapacity(data.length);
+        if (rank != root) {
+            recvBuf.clear().limit(data.length * Double.BYTES);
+            readFully(recvBuf);
+            recvBuf.flip();
+            recvBuf.asDoubleBuffer().get(data);
+        }
+        if ((rank + 1) % worldSize != root) {
+            sendBuf.clear();
+            sendBuf.asDoubleBuffer().put(data);
+            sendBuf.limit(data.length * Double.BYTES);
+            await(sender.submit(() -> {
+                writeFully(next, sendBuf);
+                return null;
+            }));
+        }
+    }
+
+    private void exchange(double[] data, int sendSeg, int recvSeg, boolean accumulate) throws IOException {
+        int sOff = segStart(data.length, sendSeg), sLen = segStart(data.length, sendSeg + 1) - sOff;
+        int rOff = segStart(data.length, recvSeg), rLen = segStart(data.length, recvSeg + 1) - rOff;
+
+        sendBuf.clear();
+        sendBuf.asDoubleBuffer().put(data, sOff, sLen);
+        sendBuf.limit(sLen * Double.BYTES);
+        Future<?> sent = sender.submit(() -> {
+            writeFully(next, sendBuf);
+            return null;
+        });
+
+        recvBuf.clear().limit(rLen * Double.BYTES);
+        readFully(recvBuf);
+        recvBuf.flip();
+        var in = recvBuf.asDoubleBuffer();
+        if (accumulate) {
+            for (int i = 0; i < rLen; i++) data[rOff + i] += in.get(i);
+        } else {
+            in.get(data, rOff, rLen);
+        }
+        await(sent);
+    }
+
+    private int segStart(int len, int seg) {
+        return (int) ((long) len * seg / worldSize);
+    }
+
+    private int maxSegment(int len) {
+        return (len + worldSize - 1) / worldSize;
+    }
+
+    private void ensureCapacity(int doubles) {
+        int bytes = doubles * Double.BYTES;
+        if (sendBuf.capacity() < bytes) {
+            sendBuf = ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+            recvBuf = ByteBuffer.allocateDirect(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        }
+    }
+
+    private static void writeFully(SocketChannel ch, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) ch.write(buf);
+    }
+
+    // reads from prev, failing after timeoutMs without any bytes arriving
+    private void readFully(ByteBuffer buf) throws IOException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (buf.hasRemaining()) {
+            int n = prev.read(buf);
+            if (n < 0) throw new EOFException("ring peer closed connection");
+            if (n > 0) {
+                deadline = System.currentTimeMillis() + timeoutMs;
+                continue;
+            }
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) throw new SocketTimeoutException("rank " + rank + ": no data from rank "
+                    + Math.floorMod(rank - 1, worldSize) + " for " + timeoutMs + " ms");
+            readable.select(left);
+            readable.selectedKeys().clear();
+        }
+    }
+
+    // sends block in the kernel, so bound them by waiting on the sender thread instead
+    private void await(Future<?> f) throws IOException {
+        try {
+            f.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            f.cancel(true);
+            throw new SocketTimeoutException("rank " + rank + ": send to rank " + (rank + 1) % worldSize
+                    + " made no progress for " + timeoutMs + " ms");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted during all-reduce", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) throw (IOException) e.getCause();
+            throw new IOException("send failed", e.getCause());
+        }
+    }
+
+    private static void closeQuietly(Closeable c) {
+        if (c == null) return;
+        try {
+            c.close();
+        } catch (IOException ignored) {
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (sender != null) sender.shutdownNow();
+        closeQuietly(readable);
+        if (next != null) next.close();
+        if (prev != null) prev.close();
+    }
+}
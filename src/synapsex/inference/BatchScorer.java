@@ -0,0 +1,406 @@
+/**
+ * Copyright (c) 2025 Hargovind Technologies. All rights reserved.
+ * SPDX-License-Identifier: LicenseRef-Hargovind-1.0
+ *
+ * See the LICENSE file in the project root for license terms.
+ *
+ */
+package synapsex.inference;
+
+import synapsex.core.Tensor;
+import synapsex.nn.Module;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Offline batch scorer: runs a Module over a whole input file without the HTTP stack.
+ *
+ * - input is memory-mapped once per region of up to 1 GiB; chunks of up to chunkRows rows
+ *   are handed to workers as slices of the current region, so the number of live mappings
+ *   stays around fileSize / 1 GiB however many chunks there are
+ * - chunks are scored in parallel under Tensor.noGrad(), so no autograd graph or grad buffers
+ *   are built; each worker thread reuses its own input Tensor, while the activations are
+ *   still allocated per chunk by Module.forward()
+ * - at most queueDepth chunks are in flight; results are written strictly in input order
+ * - every checkpointEvery chunks the output is flushed and (inputOffset, outputOffset, rows)
+ *   is saved to output + ".ckpt", so an interrupted run can resume from there; the checkpoint
+ *   also records the input's path/size/mtime, format and features, and resume refuses to
+ *   continue if any of them changed
+ *
+ * Formats:
+ * - BINARY: rows of little-endian float64, features values per row in, outFeatures per row out
+ * - CSV: one row per line, comma separated, no header
+ *
+ * The model is only read (forward), so the same instance may keep serving other callers.
+ * @author Hargovind Singh
+ */
+public class BatchScorer {
+    public enum Format { BINARY, CSV }
+
+    /** Snapshot passed to the optional progress callback (at most once per second, and once at the end). */
+    public static class Progress {
+        public final long rows;
+        public final long bytesDone;
+        public final long totalBytes;
+        public final double rowsPerSec;
+
+        public Progress(long rows, long bytesDone, long totalBytes, double rowsPerSec) {
+            this.rows = rows;
+            this.bytesDone = bytesDone;
+            this.totalBytes = totalBytes;
+            this.rowsPerSec = rowsPerSec;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("rows=%d %.1f%% %.0f rows/s", rows,
+                    totalBytes == 0 ? 100.0 : 100.0 * bytesDone / totalBytes, rowsPerSec);
+        }
+    }
+
+    private final Module model;
+    private final int features;
+    private Format format = Format.BINARY;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int chunkRows = 4096;
+    private int queueDepth = 0; // 0 -> 2 * threads
+    private int checkpointEvery = 64;
+    private Consumer<Progress> progress = null; // no reporting unless a callback is set
+
+    // input is mapped in regions of at most this size (a single mapping must stay < 2 GiB)
+    private static final long REGION_BYTES = 1L << 30;
+
+    public BatchScorer(Module model, int features) {
+        if (features <= 0) throw new IllegalArgumentException("features must be > 0");
+        this.model = model;
+        this.features = features;
+    }
+
+    // config (chainable)
+    public BatchScorer format(Format f) { this.format = f; return this; }
+    public BatchScorer threads(int n) { this.threads = requirePositive(n, "threads"); return this; }
+    public BatchScorer chunkRows(int n) { this.chunkRows = requirePositive(n, "chunkRows"); return this; }
+    public BatchScorer queueDepth(int n) { this.queueDepth = requirePositive(n, "queueDepth"); return this; }
+    public BatchScorer checkpointEvery(int n) { this.checkpointEvery = requirePositive(n, "checkpointEvery"); return this; }
+    public BatchScorer progress(Consumer<Progress> cb) { this.progress = cb; return this; }
+
+    private static int requirePositive(int n, String name) {
+        if (n <= 0) throw new IllegalArgumentException(name + " must be > 0");
+        return n;
+    }
+
+    public static Path checkpointPath(Path output) {
+        return output.resolveSibling(output.getFileName() + ".ckpt");
+    }
+
+    /**
+     * Score input into output.
+     * @param resume continue from output's checkpoint if one exists, otherwise start over
+     * @return final progress (total rows written in this run and before it)
+     */
+    public Progress score(Path input, Path output, boolean resume) throws IOException {
+        if (format == Format.BINARY && (long) chunkRows * rowBytes() > REGION_BYTES)
+            throw new IllegalArgumentException("chunkRows * row size exceeds " + REGION_BYTES + " bytes");
+        Path ckpt = checkpointPath(output);
+        Properties identity = inputIdentity(input);
+        long inPos = 0, outPos = 0, rows = 0;
+        if (resume && Files.exists(ckpt)) {
+            Properties p = new Properties();
+            try (var r = Files.newBufferedReader(ckpt)) { p.load(r); }
+            for (String key : identity.stringPropertyNames()) {
+                String saved = requireProperty(p, ckpt, key);
+                if (!saved.equals(identity.getProperty(key)))
+                    throw new IllegalStateException("checkpoint " + ckpt + " was written for " + key + "=" + saved
+                            + " but this run has " + key + "=" + identity.getProperty(key) + "; delete it or run without resume");
+            }
+            inPos = requireLong(p, ckpt, "inputOffset");
+            outPos = requireLong(p, ckpt, "outputOffset");
+            rows = requireLong(p, ckpt, "rows");
+            if (format == Format.BINARY && inPos % rowBytes() != 0)
+                throw new IllegalStateException("checkpoint " + ckpt + " inputOffset " + inPos + " is not on a row boundary");
+        }
+
+        int depth = queueDepth > 0 ? queueDepth : 2 * threads;
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "batch-scorer");
+            t.setDaemon(true);
+            return t;
+        });
+        ThreadLocal<Tensor> buffers = ThreadLocal.withInitial(() -> Tensor.noGrad(() -> new Tensor(chunkRows, features)));
+
+        try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long total = in.size();
+            if (format == Format.BINARY && total % rowBytes() != 0)
+                throw new IllegalArgumentException("binary input size is not a multiple of " + rowBytes() + " bytes");
+            if (inPos > total) throw new IllegalStateException("checkpoint is past end of input");
+            if (format == Format.CSV && inPos > 0 && !isLineStart(in, inPos))
+                throw new IllegalStateException("checkpoint " + ckpt + " inputOffset " + inPos + " is not at the start of a line");
+            if (out.size() < outPos)
+                throw new IllegalStateException("output " + output + " is shorter (" + out.size() + " bytes) than checkpoint "
+                        + ckpt + " outputOffset " + outPos + "; it was modified since, delete the checkpoint and start over");
+            // a fresh run invalidates any old checkpoint before touching the output
+            if (!resume) Files.deleteIfExists(ckpt);
+            out.truncate(outPos);
+            out.position(outPos);
+
+            long startRows = rows;
+            long startNanos = System.nanoTime();
+            ArrayDeque<Future<Scored>> inFlight = new ArrayDeque<>();
+            ArrayDeque<long[]> ranges = new ArrayDeque<>(); // {start, end, rowCount} of in-flight chunks
+            Planner planner = new Planner(in, total);
+            long next = inPos;
+            int sinceCheckpoint = 0;
+            long lastReport = startNanos;
+
+            while (next < total || !inFlight.isEmpty()) {
+                // keep the pipeline full
+                while (next < total && inFlight.size() < depth) {
+                    long[] range = planner.next(next);
+                    ByteBuffer slice = planner.slice(range);
+                    int rowCount = (int) range[2];
+                    long chunkStart = range[0];
+                    inFlight.add(pool.submit(() -> Tensor.noGrad(() -> scoreChunk(slice, chunkStart, rowCount, buffers.get()))));
+                    ranges.add(range);
+                    next = range[1];
+                }
+
+                // drain head in order
+                Scored done = await(inFlight.poll());
+                long[] range = ranges.poll();
+                ByteBuffer bb = ByteBuffer.wrap(done.bytes);
+                while (bb.hasRemaining()) out.write(bb);
+                rows += done.rows;
+
+                if (++sinceCheckpoint >= checkpointEvery && range[1] < total) {
+                    out.force(false); // never let the checkpoint point past durable output
+                    writeCheckpoint(ckpt, identity, range[1], out.position(), rows);
+                    sinceCheckpoint = 0;
+                }
+
+                long now = System.nanoTime();
+                if (progress != null && now - lastReport >= 1_000_000_000L) {
+                    progress.accept(new Progress(rows, range[1], total, (rows - startRows) / ((now - startNanos) / 1e9)));
+                    lastReport = now;
+                }
+            }
+            out.force(false);
+            Files.deleteIfExists(ckpt);
+            double secs = (System.nanoTime() - startNanos) / 1e9;
+            Progress last = new Progress(rows, total, total, secs > 0 ? (rows - startRows) / secs : 0.0);
+            if (progress != null) progress.accept(last);
+            return last;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private int rowBytes() { return features * Double.BYTES; }
+
+    /**
+     * Cuts the input into chunks, keeping one mapped region at a time.
+     * A chunk never straddles two regions: if it would, the region is remapped to start at the chunk.
+     */
+    private class Planner {
+        private final FileChannel in;
+        private final long total;
+        private MappedByteBuffer region;
+        private long base, end; // file range covered by region
+
+        Planner(FileChannel in, long total) {
+            this.in = in;
+            this.total = total;
+        }
+
+        /** Returns {start, end, rowCount} of the chunk beginning at start. */
+        long[] next(long start) throws IOException {
+            if (region == null || start < base || start >= end) map(start);
+            if (format == Format.BINARY) {
+                long chunkEnd = Math.min(total, start + (long) chunkRows * rowBytes()); // fits a region, checked in score()
+                if (chunkEnd > end) map(start);
+                return new long[]{start, chunkEnd, (chunkEnd - start) / rowBytes()};
+            }
+            // CSV: walk forward chunkRows newlines; a trailing line without '\n' still counts as a row
+            while (true) {
+                long pos = start;
+                int lines = 0;
+                while (pos < end && lines < chunkRows) {
+                    if (region.get((int) (pos++ - base)) == '\n') lines++;
+                }
+                if (lines < chunkRows && end < total) {
+                    if (base == start) throw new IllegalArgumentException("CSV chunk of " + chunkRows + " rows exceeds " + REGION_BYTES + " bytes");
+                    map(start);
+                    continue;
+                }
+                if (pos == total && region.get((int) (total - 1 - base)) != '\n') lines++;
+                return new long[]{start, pos, lines};
+            }
+        }
+
+        ByteBuffer slice(long[] range) {
+            return region.slice((int) (range[0] - base), (int) (range[1] - range[0]));
+        }
+
+        private void map(long start) throws IOException {
+            base = start;
+            end = Math.min(total, start + REGION_BYTES);
+            region = in.map(FileChannel.MapMode.READ_ONLY, base, end - base);
+        }
+    }
+
+    /** True if pos directly follows a '\n' (pos > 0). */
+    private static boolean isLineStart(FileChannel in, long pos) throws IOException {
+        ByteBuffer one = ByteBuffer.allocate(1);
+        in.read(one, pos - 1);
+        return one.get(0) == '\n';
+    }
+
+    // ========== Worker side ==========
+    private static class Scored {
+        final byte[] bytes;
+        final int rows;
+        Scored(byte[] bytes, int rows) { this.bytes = bytes; this.rows = rows; }
+    }
+
+    private Scored scoreChunk(ByteBuffer src, long fileOffset, int rowCount, Tensor reusable) {
+        Tensor x = rowCount == chunkRows ? reusable : new Tensor(rowCount, features);
+        int rows = format == Format.BINARY ? readBinary(src, x.data, rowCount) : readCsv(src, fileOffset, x.data, rowCount);
+        if (rows == 0) return new Scored(new byte[0], 0);
+        if (rows != x.shape[0]) {
+            // blank lines in CSV: shrink to the rows actually parsed
+            Tensor trimmed = new Tensor(rows, features);
+            System.arraycopy(x.data, 0, trimmed.data, 0, rows * features);
+            x = trimmed;
+        }
+        Tensor y = model.forward(x);
+        return new Scored(format == Format.BINARY ? encodeBinary(y) : encodeCsv(y), rows);
+    }
+
+    private int readBinary(ByteBuffer src, double[] dst, int rowCount) {
+        src.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(dst, 0, rowCount * features);
+        return rowCount;
+    }
+
+    /** fileOffset is where src starts in the input, so errors can point at the offending line. */
+    private int readCsv(ByteBuffer src, long fileOffset, double[] dst, int maxRows) {
+        StringBuilder field = new StringBuilder(32);
+        int row = 0, col = 0, lineStart = 0;
+        int n = src.limit();
+        for (int i = 0; i <= n; i++) {
+            byte b = i < n ? src.get(i) : (byte) '\n';
+            if (b == ',' || b == '\n') {
+                if (b == '\n' && col == 0 && isBlank(field)) { // blank or whitespace-only line
+                    field.setLength(0);
+                    lineStart = i + 1;
+                    continue;
+                }
+                long at = fileOffset + lineStart;
+                if (col >= features) throw new IllegalArgumentException("CSV line at byte offset " + at + " has more than " + features + " columns");
+                dst[row * features + col++] = parseField(field, at);
+                field.setLength(0);
+                if (b == '\n') {
+                    if (col != features) throw new IllegalArgumentException("CSV line at byte offset " + at + " has " + col + " columns, expected " + features);
+                    col = 0;
+                    lineStart = i + 1;
+                    if (++row == maxRows) break;
+                }
+            } else if (b != '\r') {
+                field.append((char) b);
+            }
+        }
+        return row;
+    }
+
+    private static boolean isBlank(StringBuilder sb) {
+        for (int i = 0; i < sb.length(); i++) if (!Character.isWhitespace(sb.charAt(i))) return false;
+        return true;
+    }
+
+    private static double parseField(StringBuilder field, long lineOffset) {
+        String v = field.toString().trim();
+        try {
+            return Double.parseDouble(v);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("CSV line at byte offset " + lineOffset + " has invalid number '" + v + "'", e);
+        }
+    }
+
+    private static byte[] encodeBinary(Tensor y) {
+        ByteBuffer bb = ByteBuffer.allocate(y.size * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        bb.asDoubleBuffer().put(y.data);
+        return bb.array();
+    }
+
+    private static byte[] encodeCsv(Tensor y) {
+        int rows = y.shape[0], cols = y.shape[1];
+        StringBuilder sb = new StringBuilder(rows * cols * 12);
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < cols; j++) {
+                if (j > 0) sb.append(',');
+                sb.append(y.data[i * cols + j]);
+            }
+            sb.append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    // ========== Checkpointing ==========
+    /** What a checkpoint is only valid for: the exact input file and how it is parsed. */
+    private Properties inputIdentity(Path input) throws IOException {
+        Properties p = new Properties();
+        p.setProperty("input", input.toAbsolutePath().normalize().toString());
+        p.setProperty("inputSize", Long.toString(Files.size(input)));
+        p.setProperty("inputMtime", Long.toString(Files.getLastModifiedTime(input).toMillis()));
+        p.setProperty("format", format.name());
+        p.setProperty("features", Integer.toString(features));
+        return p;
+    }
+
+    private static String requireProperty(Properties p, Path ckpt, String key) throws IOException {
+        String v = p.getProperty(key);
+        if (v == null) throw new IOException("checkpoint " + ckpt + " is missing '" + key + "'");
+        return v;
+    }
+
+    private static long requireLong(Properties p, Path ckpt, String key) throws IOException {
+        String v = requireProperty(p, ckpt, key);
+        try {
+            return Long.parseLong(v.trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("checkpoint " + ckpt + " has invalid " + key + "='" + v + "'", e);
+        }
+    }
+
+    private static void writeCheckpoint(Path ckpt, Properties identity, long inputOffset, long outputOffset, long rows) throws IOException {
+        Properties p = new Properties();
+        p.putAll(identity);
+        p.setProperty("inputOffset", Long.toString(inputOffset));
+        p.setProperty("outputOffset", Long.toString(outputOffset));
+        p.setProperty("rows", Long.toString(rows));
+        Path tmp = ckpt.resolveSibling(ckpt.getFileName() + ".tmp");
+        try (var w = Files.newBufferedWriter(tmp)) { p.store(w, "BatchScorer checkpoint"); }
+        Files.move(tmp, ckpt, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Scored await(Future<Scored> f) throws IOException {
+        try {
+            return f.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while scoring", e);
+        } catch (ExecutionException e) {
+            Throwable c = e.getCause();
+            if (c instanceof RuntimeException) throw (RuntimeException) c;
+            throw new IOException("chunk scoring failed", c);
+        }
+    }
+}
@@ -57,7 +57,7 @@ public class Linear extends Module {
         }
 
         // autograd
-        if (x.requiresGrad || weight.requiresGrad || bias.requiresGrad) {
+        if (Tensor.isGradEnabled() && (x.requiresGrad || weight.requiresGrad || bias.requiresGrad)) {
             out.setRequiresGrad(true);
             out.parents.add(x);
             out.parents.add(weight);
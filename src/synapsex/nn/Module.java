@@ -8,6 +8,11 @@
 package synapsex.nn;
 
 import synapsex.core.Tensor;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 
 /**
@@ -30,4 +35,40 @@ public abstract class Module {
     protected void registerParam(String name, Tensor t) {
         params.put(name, t);
     }
+
+    // ========== Weights file ==========
+    // format: int count, then per parameter: int size, size doubles (parameters() order, big-endian)
+    private static final int WEIGHTS_MAGIC = 0x53585701; // "SXW" v1
+
+    /** Write parameters() to file, so another process can load the exact same model. */
+    public void saveWeights(Path file) throws IOException {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            List<Tensor> ps = parameters();
+            out.writeInt(WEIGHTS_MAGIC);
+            out.writeInt(ps.size());
+            for (Tensor p : ps) {
+                out.writeInt(p.size);
+                for (double v : p.data) out.writeDouble(v);
+            }
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /** Overwrite parameters() with a file written by saveWeights() for the same architecture. */
+    public void loadWeights(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != WEIGHTS_MAGIC) throw new IOException(file + " is not a weights file");
+            List<Tensor> ps = parameters();
+            int count = in.readInt();
+            if (count != ps.size()) throw new IOException(file + " has " + count + " parameters, model has " + ps.size());
+            for (int i = 0; i < count; i++) {
+                Tensor p = ps.get(i);
+                int size = in.readInt();
+                if (size != p.size) throw new IOException(file + ": parameter " + i + " has " + size + " values, model has " + p.size);
+                for (int j = 0; j < size; j++) p.data[j] = in.readDouble();
+            }
+            if (in.read() != -1) throw new IOException(file + " has trailing data");
+        }
+    }
 }
@@ -7,23 +7,44 @@
  */
 ackage com.synapsex.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import synapsex.core.Tensor;
+import synapsex.inference.BatchScorer;
 import synapsex.nn.Linear;
 import synapsex.nn.ReLU;
 import synapsex.nn.Sequential;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.function.Consumer;
+
 @Service
 public class AIService {
 
     private final Sequential model;
+    private final int inFeatures;
 
-    public AIService() {
+    /**
+     * @param weights file written by Module.saveWeights(); if empty the model keeps its random init.
+     *                Set synapsex.model.weights so the server and BatchScoringMain use the same model.
+     */
+    public AIService(@Value("${synapsex.model.weights:}") String weights) {
         // initialize a small model
         Linear l1 = new Linear(4, 16);
         ReLU r = new ReLU();
         Linear l2 = new Linear(16, 2);
         model = new Sequential(l1, r, l2);
+        inFeatures = l1.inFeatures;
+        if (weights != null && !weights.isEmpty()) {
+            try {
+                model.loadWeights(Paths.get(weights));
+            } catch (IOException e) {
+                throw new UncheckedIOException("could not load model weights from " + weights, e);
+            }
+        }
     }
 
     /**
@@ -47,4 +68,15 @@ public class AIService {
         }
         return result;
     }
+
+    /**
+     * Offline bulk scoring with this model, bypassing HTTP (see BatchScoringMain).
+     * Uses all cores; see BatchScorer for file formats and checkpoint/resume.
+     * @param resume continue from output's checkpoint if present
+     * @param progress receives progress snapshots, may be null
+     */
+    public BatchScorer.Progress scoreFile(Path input, Path output, BatchScorer.Format format, boolean resume,
+                                          Consumer<BatchScorer.Progress> progress) throws IOException {
+        return new BatchScorer(model, inFeatures).format(format).progress(progress).score(input, output, resume);
+    }
 }